@@ -0,0 +1,105 @@
+package de.denktmit.testsupport.spring;
+
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ConfigResolver} looks up initializer settings from a layered chain of sources. A setting known as environment
+ * variable {@code POSTGRES_HOST} is resolved from
+ * <ol>
+ *     <li>the Spring {@code Environment} of the initialized context, as property {@code testsupport.postgres.host}.
+ *     The property sources are consulted in the environment's own order. For a {@code StandardEnvironment} this
+ *     includes test property sources, system property {@code testsupport.postgres.host} and, through relaxed
+ *     binding, environment variable {@code TESTSUPPORT_POSTGRES_HOST},</li>
+ *     <li>system property {@code testsupport.postgres.host}, which only matters if no {@code Environment} is given,</li>
+ *     <li>environment variable {@code POSTGRES_HOST},</li>
+ *     <li>the given default value.</li>
+ * </ol>
+ * System properties and environment variables are read once per JVM and memoized, only the {@code Environment} is
+ * queried per resolution. The resolved raw values are collected in declaration order, so the configurations can
+ * memoize themselves on them.
+ */
+final class ConfigResolver {
+    /**
+     * Prefix of the property names looked up in the Spring {@code Environment} and the system properties.
+     */
+    static final String PROPERTY_PREFIX = "testsupport.";
+
+    private static final Map<String, Optional<String>> JVM_VALUES = new ConcurrentHashMap<>();
+
+    private final PropertyResolver environment;
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    /**
+     * Creates a resolver for the given Spring {@code Environment}.
+     *
+     * @param environment environment of the initialized context, {@code null} to skip that source
+     */
+    ConfigResolver(@Nullable PropertyResolver environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Resolves a setting and records its value.
+     *
+     * @param envVariable  environment variable name of the setting, the property name is derived from it
+     * @param defaultValue value used if no source provides the setting
+     * @return this resolver
+     */
+    ConfigResolver resolve(String envVariable, Object defaultValue) {
+        String value = environment != null ? environment.getProperty(propertyName(envVariable)) : null;
+        if (value == null) {
+            value = JVM_VALUES.computeIfAbsent(envVariable, ConfigResolver::lookupJvmValue).orElse(null);
+        }
+        values.put(envVariable, value != null ? value : String.valueOf(defaultValue));
+        return this;
+    }
+
+    private static Optional<String> lookupJvmValue(String envVariable) {
+        String value = System.getProperty(propertyName(envVariable));
+        return Optional.ofNullable(value != null ? value : System.getenv(envVariable));
+    }
+
+    /**
+     * Forgets the memoized system properties and environment variables, for tests changing them at runtime.
+     */
+    static void clearJvmValues() {
+        JVM_VALUES.clear();
+    }
+
+    /**
+     * Gets a previously resolved setting.
+     *
+     * @param envVariable environment variable name of the setting
+     * @return resolved value
+     */
+    String get(String envVariable) {
+        return values.get(envVariable);
+    }
+
+    /**
+     * Gets all resolved settings keyed by their environment variable name.
+     *
+     * @return unmodifiable view of the resolved settings
+     */
+    Map<String, String> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Derives the property name of a setting, e.g. {@code testsupport.postgres.host} for {@code POSTGRES_HOST}.
+     *
+     * @param envVariable environment variable name of the setting
+     * @return property name of the setting
+     */
+    static String propertyName(String envVariable) {
+        return PROPERTY_PREFIX + envVariable.toLowerCase(Locale.ROOT).replace('_', '.');
+    }
+}
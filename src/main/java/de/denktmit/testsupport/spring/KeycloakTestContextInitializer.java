@@ -10,10 +10,17 @@ import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.*;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code KeycloakTestContextInitializer} is an implementation of the
@@ -23,31 +30,71 @@ import java.util.List;
  * <p>
  * This class provides default configuration values that can be overridden using
  * environment variable . It also exposes an {@link Config} class to customize
- * the Keycloak configuration.
+ * the Keycloak configuration. Each environment variable can also be given as property
+ * of the context's {@code Environment} or as system property, e.g. {@code testsupport.keycloak.host}
+ * for KEYCLOAK_HOST, see {@link Config#resolve(PropertyResolver)}.
+ * <p>
+ * By default the sandbox realm is recreated on every {@link #initialize(ConfigurableApplicationContext)}.
+ * Setting KEYCLOAK_REALM_POOL_SIZE to a positive value switches to pool mode instead: a background
+ * worker keeps that many fully provisioned realms ready and replaces each one taken by an initialization.
+ * The realm is removed asynchronously once the application context is closed, see {@link ResourcePool}.
+ * <p>
+ * Realm provisioning is coordinated across JVMs through a {@link ProvisioningLock}, so forks sharing
+ * the same Keycloak instance and realm do not recreate it while another one still runs its tests.
  *
  * @author [Your Name]
  * @version 1.0
  * @see ApplicationContextInitializer
  */
 public class KeycloakTestContextInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
-    private Config config = new Config();
+    private static final Map<Config, ResourcePool> REALM_POOLS = new ConcurrentHashMap<>();
+
+    private Config config = Config.resolve(null);
+    private String realmName;
 
     @Override
     public void initialize(ConfigurableApplicationContext applicationContext) {
-        setupKeycloak(config);
+        config = Config.resolve(applicationContext.getEnvironment());
+        if (config.realmPoolSize > 0) {
+            ResourcePool pool = REALM_POOLS.computeIfAbsent(config, key -> new RealmPool(key).start(key.getKey() + "-pool"));
+            String leasedRealm = pool.take();
+            onClose(applicationContext, () -> pool.release(leasedRealm));
+            realmName = leasedRealm;
+        } else {
+            ProvisioningLock.Lease lease = ProvisioningLock.forResource(config.getKey())
+                    .provision(config.settings(), () -> setupKeycloak(config, config.testRealmName));
+            onClose(applicationContext, lease::close);
+            realmName = config.testRealmName;
+        }
         TestPropertyValues.of(
-                "spring.security.oauth2.client.provider.keycloak.issuer-uri=http://" + config.keycloakAddress + "/auth/realms/" + config.testRealmName,
+                "spring.security.oauth2.client.provider.keycloak.issuer-uri=http://" + config.keycloakAddress + "/auth/realms/" + realmName,
                 "spring.security.oauth2.client.registration.keycloak.client-id=" + config.testClientId,
                 "spring.security.oauth2.client.registration.keycloak.client-secret=" + config.testClientSecret
         ).applyTo(applicationContext.getEnvironment());
     }
 
-    private void setupKeycloak(Config ic) {
-        KeycloakSession keycloakSession = new KeycloakSession(ic);
+    /**
+     * Runs the action once the given context closes. Close events of child contexts are propagated to their parents,
+     * so events of other contexts are ignored.
+     */
+    private static void onClose(ConfigurableApplicationContext applicationContext, Runnable action) {
+        applicationContext.addApplicationListener((ApplicationListener<ContextClosedEvent>) event -> {
+            if (event.getApplicationContext() == applicationContext) {
+                action.run();
+            }
+        });
+    }
+
+    private static void setupKeycloak(Config ic, String realmName) {
+        KeycloakSession keycloakSession = new KeycloakSession(ic, realmName);
         keycloakSession.connectAdminClient();
-        keycloakSession.createSandboxRealm();
-        keycloakSession.createSandboxRealmClient();
-        keycloakSession.setupNewUser();
+        try {
+            keycloakSession.createSandboxRealm();
+            keycloakSession.createSandboxRealmClient();
+            keycloakSession.setupNewUser();
+        } finally {
+            keycloakSession.close();
+        }
     }
 
     /**
@@ -59,9 +106,21 @@ public class KeycloakTestContextInitializer implements ApplicationContextInitial
         return config;
     }
 
+    /**
+     * Gets the name of the realm provisioned for the last initialized application context. Equals
+     * {@link Config#getTestRealmName()} unless the realm pool is enabled.
+     *
+     * @return name of the provisioned realm, {@code null} before {@link #initialize(ConfigurableApplicationContext)}
+     */
+    public String getRealmName() {
+        return realmName;
+    }
+
     /**
      * Configuration class holding values for Keycloak setup. Provides default values
-     * that can be overridden using environment variable .
+     * that can be overridden through the Spring {@code Environment}, system properties or
+     * environment variables, see {@link ConfigResolver}. Resolved configurations are memoized,
+     * so identical settings share a single instance per JVM.
      */
     public static class Config {
         /**
@@ -134,21 +193,100 @@ public class KeycloakTestContextInitializer implements ApplicationContextInitial
          */
         public static String TEST_ADMIN_PASSWORD = "ThisIsHow2ConnectAnAdmin!";
 
-        private String keycloakUriSchema = System.getenv("KEYCLOAK_HOST_URI_SCHEMA") != null ? System.getenv("KEYCLOAK_HOST_URI_SCHEMA") : URI_SCHEMA;
-        private String keycloakHost = System.getenv("KEYCLOAK_HOST") != null ? System.getenv("KEYCLOAK_HOST") : DEFAULT_HOST;
-        private int keycloakPort = System.getenv("KEYCLOAK_PORT") != null ? Integer.parseInt(System.getenv("KEYCLOAK_PORT")) : DEFAULT_PORT;
-        private String keycloakAdminName = System.getenv("KEYCLOAK_USER") != null ? System.getenv("KEYCLOAK_USER") : DEFAULT_ADMIN_USERNAME;
-        private String keycloakAdminPassword = System.getenv("KEYCLOAK_PASSWORD") != null ? System.getenv("KEYCLOAK_PASSWORD") : DEFAULT_ADMIN_PASSWORD;
-        private String keycloakAddress =  keycloakUriSchema + "://" + keycloakHost + ":" + keycloakPort;
-        private String keycloakMasterRealm = System.getenv("KEYCLOAK_MASTER_REALM") != null ? System.getenv("KEYCLOAK_MASTER_REALM") : DEFAULT_MASTER_REALM;
-        private String keycloakAdminClientId = System.getenv("KEYCLOAK_ADMIN_CLIENT_ID") != null ? System.getenv("KEYCLOAK_ADMIN_CLIENT_ID") : DEFAULT_ADMIN_CLIENT_ID;
-        private String testClientId = System.getenv("KEYCLOAK_TEST_CLIENT_ID") != null ? System.getenv("KEYCLOAK_TEST_CLIENT_ID") : TEST_CLIENT_ID;
-        private String testClientSecret = System.getenv("KEYCLOAK_TEST_CLIENT_SECRET") != null ? System.getenv("KEYCLOAK_TEST_CLIENT_SECRET") : TEST_CLIENT_SECRET;
-        private String testRealmName = System.getenv("KEYCLOAK_TEST_REALM_NAME") != null ? System.getenv("KEYCLOAK_TEST_REALM_NAME") : TEST_REALM_NAME;
-        private String testUserRole = System.getenv("KEYCLOAK_TEST_USER_ROLE") != null ? System.getenv("KEYCLOAK_TEST_USER_ROLE") : TEST_USER_ROLE;
-        private String testUserRoleDescription = System.getenv("KEYCLOAK_TEST_USER_ROLE_DESCRIPTION") != null ? System.getenv("KEYCLOAK_TEST_USER_ROLE_DESCRIPTION") : TEST_USER_ROLE_DESCRIPTION;
-        private String testAdminUsername = System.getenv("KEYCLOAK_TEST_ADMIN_USERNAME") != null ? System.getenv("KEYCLOAK_TEST_ADMIN_USERNAME") : TEST_ADMIN_USERNAME;
-        private String testAdminPassword = System.getenv("KEYCLOAK_TEST_ADMIN_PASSWORD") != null ? System.getenv("KEYCLOAK_TEST_ADMIN_PASSWORD") : TEST_ADMIN_PASSWORD;
+        /**
+         * Default number of pre-provisioned realms kept ready by the realm pool. Defaults to 0, which disables the pool.
+         */
+        public static int DEFAULT_REALM_POOL_SIZE = 0;
+
+        private static final Map<Map<String, String>, Config> RESOLVED = new ConcurrentHashMap<>();
+
+        private final String keycloakUriSchema;
+        private final String keycloakHost;
+        private final int keycloakPort;
+        private final String keycloakAdminName;
+        private final String keycloakAdminPassword;
+        private final String keycloakAddress;
+        private final String keycloakMasterRealm;
+        private final String keycloakAdminClientId;
+        private final String testClientId;
+        private final String testClientSecret;
+        private final String testRealmName;
+        private final String testUserRole;
+        private final String testUserRoleDescription;
+        private final String testAdminUsername;
+        private final String testAdminPassword;
+        private final int realmPoolSize;
+
+        /**
+         * Creates a configuration from system properties, environment variables and defaults.
+         *
+         * @deprecated bypasses the memoization, use {@link #resolve(PropertyResolver)} with {@code null} instead
+         */
+        @Deprecated
+        public Config() {
+            this(resolveValues(null));
+        }
+
+        private Config(Map<String, String> values) {
+            keycloakUriSchema = values.get("KEYCLOAK_HOST_URI_SCHEMA");
+            keycloakHost = values.get("KEYCLOAK_HOST");
+            keycloakPort = Integer.parseInt(values.get("KEYCLOAK_PORT"));
+            keycloakAdminName = values.get("KEYCLOAK_USER");
+            keycloakAdminPassword = values.get("KEYCLOAK_PASSWORD");
+            keycloakAddress = keycloakUriSchema + "://" + keycloakHost + ":" + keycloakPort;
+            keycloakMasterRealm = values.get("KEYCLOAK_MASTER_REALM");
+            keycloakAdminClientId = values.get("KEYCLOAK_ADMIN_CLIENT_ID");
+            testClientId = values.get("KEYCLOAK_TEST_CLIENT_ID");
+            testClientSecret = values.get("KEYCLOAK_TEST_CLIENT_SECRET");
+            testRealmName = values.get("KEYCLOAK_TEST_REALM_NAME");
+            testUserRole = values.get("KEYCLOAK_TEST_USER_ROLE");
+            testUserRoleDescription = values.get("KEYCLOAK_TEST_USER_ROLE_DESCRIPTION");
+            testAdminUsername = values.get("KEYCLOAK_TEST_ADMIN_USERNAME");
+            testAdminPassword = values.get("KEYCLOAK_TEST_ADMIN_PASSWORD");
+            realmPoolSize = Integer.parseInt(values.get("KEYCLOAK_REALM_POOL_SIZE"));
+        }
+
+        /**
+         * Resolves the configuration from the given Spring {@code Environment}, system properties, environment
+         * variables and defaults. The result is memoized per distinct set of resolved values.
+         *
+         * @param environment environment of the initialized context, {@code null} to skip that source
+         * @return resolved {@link Config}
+         */
+        public static Config resolve(@Nullable PropertyResolver environment) {
+            return RESOLVED.computeIfAbsent(resolveValues(environment), Config::new);
+        }
+
+        private static Map<String, String> resolveValues(@Nullable PropertyResolver environment) {
+            return new ConfigResolver(environment)
+                    .resolve("KEYCLOAK_HOST_URI_SCHEMA", URI_SCHEMA)
+                    .resolve("KEYCLOAK_HOST", DEFAULT_HOST)
+                    .resolve("KEYCLOAK_PORT", DEFAULT_PORT)
+                    .resolve("KEYCLOAK_USER", DEFAULT_ADMIN_USERNAME)
+                    .resolve("KEYCLOAK_PASSWORD", DEFAULT_ADMIN_PASSWORD)
+                    .resolve("KEYCLOAK_MASTER_REALM", DEFAULT_MASTER_REALM)
+                    .resolve("KEYCLOAK_ADMIN_CLIENT_ID", DEFAULT_ADMIN_CLIENT_ID)
+                    .resolve("KEYCLOAK_TEST_CLIENT_ID", TEST_CLIENT_ID)
+                    .resolve("KEYCLOAK_TEST_CLIENT_SECRET", TEST_CLIENT_SECRET)
+                    .resolve("KEYCLOAK_TEST_REALM_NAME", TEST_REALM_NAME)
+                    .resolve("KEYCLOAK_TEST_USER_ROLE", TEST_USER_ROLE)
+                    .resolve("KEYCLOAK_TEST_USER_ROLE_DESCRIPTION", TEST_USER_ROLE_DESCRIPTION)
+                    .resolve("KEYCLOAK_TEST_ADMIN_USERNAME", TEST_ADMIN_USERNAME)
+                    .resolve("KEYCLOAK_TEST_ADMIN_PASSWORD", TEST_ADMIN_PASSWORD)
+                    .resolve("KEYCLOAK_REALM_POOL_SIZE", DEFAULT_REALM_POOL_SIZE)
+                    .values();
+        }
+
+        /**
+         * Get a key identifying the realm this configuration provisions, stable across contexts and JVMs. Contexts
+         * sharing the key share the realm, so they must agree on all other settings as well, see
+         * {@link ProvisioningLock}.
+         *
+         * @return key made of Keycloak host, port and test realm name.
+         */
+        public String getKey() {
+            return "keycloak-" + keycloakHost + "-" + keycloakPort + "-" + testRealmName;
+        }
 
         /**
          * Get the Keycloak uri schema. Defaults to {@link #URI_SCHEMA} if not provided through environment variable KEYCLOAK_HOST_URI_SCHEMA.
@@ -285,16 +423,85 @@ public class KeycloakTestContextInitializer implements ApplicationContextInitial
         public String getTestAdminPassword() {
             return testAdminPassword;
         }
+
+        /**
+         * Get the number of realms kept ready by the realm pool. Defaults to {@link #DEFAULT_REALM_POOL_SIZE} if not provided through environment variable KEYCLOAK_REALM_POOL_SIZE.
+         *
+         * @return The realm pool size, 0 if the pool is disabled.
+         */
+        public int getRealmPoolSize() {
+            return realmPoolSize;
+        }
+
+        /**
+         * Configurations are equal if all their settings are, so contexts with identical settings share a realm pool.
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Config other && settings().equals(other.settings());
+        }
+
+        @Override
+        public int hashCode() {
+            return settings().hashCode();
+        }
+
+        private List<Object> settings() {
+            return Arrays.asList(keycloakUriSchema, keycloakHost, keycloakPort, keycloakAdminName, keycloakAdminPassword,
+                    keycloakMasterRealm, keycloakAdminClientId, testClientId, testClientSecret, testRealmName, testUserRole,
+                    testUserRoleDescription, testAdminUsername, testAdminPassword, realmPoolSize);
+        }
+    }
+
+    /**
+     * Keeps {@link Config#getRealmPoolSize()} fully provisioned realms, with client, user and role, ready.
+     */
+    private static class RealmPool extends ResourcePool {
+        private final Config ic;
+
+        private RealmPool(Config ic) {
+            super("keycloak-realm", ic.testRealmName + "-pool-", ic.realmPoolSize);
+            this.ic = ic;
+        }
+
+        @Override
+        void create(String realmName) {
+            setupKeycloak(ic, realmName);
+        }
+
+        @Override
+        void remove(String realmName) {
+            KeycloakSession keycloakSession = new KeycloakSession(ic, realmName);
+            keycloakSession.connectAdminClient();
+            try {
+                keycloakSession.deleteRealmIfExists();
+            } finally {
+                keycloakSession.close();
+            }
+        }
+
+        @Override
+        List<String> list() {
+            KeycloakSession keycloakSession = new KeycloakSession(ic, null);
+            keycloakSession.connectAdminClient();
+            try {
+                return keycloakSession.realmNames();
+            } finally {
+                keycloakSession.close();
+            }
+        }
     }
 
     private static class KeycloakSession {
         private final Config ic;
+        private final String realmName;
         private Keycloak keycloakAdminClient;
         private RealmResource realm;
         private UsersResource users;
 
-        public KeycloakSession(Config ic) {
+        public KeycloakSession(Config ic, String realmName) {
             this.ic = ic;
+            this.realmName = realmName;
         }
 
         private void connectAdminClient() {
@@ -307,23 +514,33 @@ public class KeycloakTestContextInitializer implements ApplicationContextInitial
                     .build();
         }
 
+        private void close() {
+            keycloakAdminClient.close();
+        }
+
         private void createSandboxRealm() {
             deleteRealmIfExists();
             keycloakAdminClient.realms().create(
                     new RealmRepresentation() {{
-                        setRealm(ic.testRealmName);
+                        setRealm(realmName);
                         setEnabled(true);
                     }}
             );
-            realm = keycloakAdminClient.realm(ic.testRealmName);
+            realm = keycloakAdminClient.realm(realmName);
             users = realm.users();
         }
 
         private void deleteRealmIfExists() {
             keycloakAdminClient.realms().findAll().stream()
-                    .filter(r -> r.getRealm().equals(ic.testRealmName))
+                    .filter(r -> r.getRealm().equals(realmName))
                     .findFirst()
-                    .ifPresent(r -> keycloakAdminClient.realm(ic.testRealmName).remove());
+                    .ifPresent(r -> keycloakAdminClient.realm(realmName).remove());
+        }
+
+        private List<String> realmNames() {
+            return keycloakAdminClient.realms().findAll().stream()
+                    .map(RealmRepresentation::getRealm)
+                    .toList();
         }
 
         private void createSandboxRealmClient() {
@@ -4,13 +4,41 @@ import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.configuration.ClassicConfiguration;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.PropertyResolver;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * PostgresTestContextInitializer is an ApplicationContextInitializer for configuring a Spring Boot application context
  * for integration testing with a PostgreSQL database. It allows setting up database properties and using Flyway to
  * reset the database to a clean state.
+ * <p>
+ * Settings are resolved through {@link Config#resolve(PropertyResolver)} from the context's {@code Environment}, system
+ * properties and environment variables, e.g. {@code testsupport.postgres.host} or POSTGRES_HOST.
+ * <p>
+ * Setting POSTGRES_POOL_SIZE to a positive value switches to pool mode: a background thread keeps that many migrated
+ * databases ready and replaces each one injected into a context. The database is dropped once the context is closed,
+ * leftovers of earlier runs are dropped when the pool starts, see {@link ResourcePool}.
+ * <p>
+ * Cleaning and migrating is coordinated across JVMs through a {@link ProvisioningLock}, so forks sharing the same
+ * database do not reset it while another one still runs its tests.
  */
 public class PostgresTestContextInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
     /**
@@ -44,6 +72,17 @@ public class PostgresTestContextInitializer implements ApplicationContextInitial
      */
     public static boolean DEFAULT_FLYWAY_CLEAN = true;
 
+    /**
+     * Default strategy used to clean the database if no environment variable is set for FLYWAY_CLEAN_STRATEGY.
+     */
+    public static CleanStrategy DEFAULT_CLEAN_STRATEGY = CleanStrategy.FLYWAY;
+
+    /**
+     * Default comma separated list of schemas dropped and recreated by {@link CleanStrategy#DROP_SCHEMA}, if no
+     * environment variable is set for FLYWAY_CLEAN_SCHEMAS.
+     */
+    public static String DEFAULT_CLEAN_SCHEMAS = "public";
+
     /**
      * Default behavior switch to adjust if Flyway shall execute the 'migrate' action if no environment variable
      * is set for FLYWAY_MIGRATE
@@ -51,50 +90,298 @@ public class PostgresTestContextInitializer implements ApplicationContextInitial
     public static boolean DEFAULT_FLYWAY_MIGRATE = true;
 
     /**
-     * Configuration class holding values for Postgres setup. Provides default values
-     * that can be overridden using environment variable .
+     * Default number of migrated databases kept ready by the pool if no environment variable is set for
+     * POSTGRES_POOL_SIZE. 0 disables the pool.
+     */
+    public static int DEFAULT_POOL_SIZE = 0;
+
+    /**
+     * Default suffix appended to the database name to build the pool database name prefix, if no environment variable
+     * is set for POSTGRES_POOL_DB_PREFIX.
+     */
+    public static String DEFAULT_POOL_DB_SUFFIX = "_pool_";
+
+    private static final Map<Config, ResourcePool> DATABASE_POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Strategy used to clean the database before migrating it.
+     */
+    public enum CleanStrategy {
+        /**
+         * Let Flyway drop every object one by one using {@link Flyway#clean()}.
+         */
+        FLYWAY,
+
+        /**
+         * Drop and recreate each managed schema in a single transaction, restoring its owner, grants and the default
+         * privileges defined for it. Takes near constant time regardless of the number of objects in the schemas.
+         */
+        DROP_SCHEMA
+    }
+
+    /**
+     * Configuration class holding values for Postgres setup. Provides default values that can be overridden through
+     * the Spring {@code Environment}, system properties or environment variables, see {@link ConfigResolver}. Resolved
+     * configurations are memoized, so identical settings share a single instance per JVM.
      */
     public static class Config {
-        String dbHost = System.getenv("POSTGRES_HOST") != null ? System.getenv("POSTGRES_HOST") : DEFAULT_HOST;
-        int dbPort = System.getenv("POSTGRES_PORT") != null ? Integer.parseInt(System.getenv("POSTGRES_PORT")) : DEFAULT_PORT;
-        String dbName = System.getenv("POSTGRES_DB") != null ? System.getenv("POSTGRES_DB") : DEFAULT_DB_NAME;
-        String dbUser = System.getenv("POSTGRES_USER") != null ? System.getenv("POSTGRES_USER") : DEFAULT_USERNAME;
-        String dbPassword = System.getenv("POSTGRES_PASSWORD") != null ? System.getenv("POSTGRES_PASSWORD") : DEFAULT_PASSWORD;
-        String dbUrl = "jdbc:postgresql://" + dbHost + ":" + dbPort + "/" + dbName + "?loggerLevel=OFF";
-        boolean flywayClean = System.getenv("FLYWAY_CLEAN") != null ? Boolean.parseBoolean(System.getenv("FLYWAY_CLEAN")) : DEFAULT_FLYWAY_CLEAN;
-        boolean flywayMigrate = System.getenv("FLYWAY_MIGRATE") != null ? Boolean.parseBoolean(System.getenv("FLYWAY_MIGRATE")) : DEFAULT_FLYWAY_MIGRATE;
+        private static final Map<Map<String, String>, Config> RESOLVED = new ConcurrentHashMap<>();
+
+        final String dbHost;
+        final int dbPort;
+        final String dbName;
+        final String dbUser;
+        final String dbPassword;
+        final String dbUrl;
+        final boolean flywayClean;
+        final CleanStrategy cleanStrategy;
+        final List<String> cleanSchemas;
+        final boolean flywayMigrate;
+        final int poolSize;
+        final String poolDbPrefix;
+
+        /**
+         * Creates a configuration from system properties, environment variables and defaults.
+         *
+         * @deprecated bypasses the memoization, use {@link #resolve(PropertyResolver)} with {@code null} instead
+         */
+        @Deprecated
+        public Config() {
+            this(resolveValues(null));
+        }
+
+        private Config(Map<String, String> values) {
+            dbHost = values.get("POSTGRES_HOST");
+            dbPort = Integer.parseInt(values.get("POSTGRES_PORT"));
+            dbName = values.get("POSTGRES_DB");
+            dbUser = values.get("POSTGRES_USER");
+            dbPassword = values.get("POSTGRES_PASSWORD");
+            dbUrl = dbUrl(dbName);
+            flywayClean = Boolean.parseBoolean(values.get("FLYWAY_CLEAN"));
+            cleanStrategy = parseCleanStrategy(values.get("FLYWAY_CLEAN_STRATEGY"));
+            cleanSchemas = List.of(values.get("FLYWAY_CLEAN_SCHEMAS").split("\\s*,\\s*"));
+            flywayMigrate = Boolean.parseBoolean(values.get("FLYWAY_MIGRATE"));
+            poolSize = Integer.parseInt(values.get("POSTGRES_POOL_SIZE"));
+            poolDbPrefix = values.get("POSTGRES_POOL_DB_PREFIX");
+        }
+
+        private static CleanStrategy parseCleanStrategy(String value) {
+            try {
+                return CleanStrategy.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                String allowedValues = Arrays.stream(CleanStrategy.values())
+                        .map(strategy -> strategy.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                        .collect(Collectors.joining(", "));
+                throw new IllegalArgumentException("Invalid FLYWAY_CLEAN_STRATEGY (" + ConfigResolver.propertyName("FLYWAY_CLEAN_STRATEGY")
+                        + ") '" + value + "', allowed values are " + allowedValues, e);
+            }
+        }
+
+        /**
+         * Resolves the configuration from the given Spring {@code Environment}, system properties, environment
+         * variables and defaults. The result is memoized per distinct set of resolved values.
+         *
+         * @param environment environment of the initialized context, {@code null} to skip that source
+         * @return resolved {@link Config}
+         */
+        public static Config resolve(@Nullable PropertyResolver environment) {
+            return RESOLVED.computeIfAbsent(resolveValues(environment), Config::new);
+        }
+
+        private static Map<String, String> resolveValues(@Nullable PropertyResolver environment) {
+            ConfigResolver resolver = new ConfigResolver(environment)
+                    .resolve("POSTGRES_HOST", DEFAULT_HOST)
+                    .resolve("POSTGRES_PORT", DEFAULT_PORT)
+                    .resolve("POSTGRES_DB", DEFAULT_DB_NAME)
+                    .resolve("POSTGRES_USER", DEFAULT_USERNAME)
+                    .resolve("POSTGRES_PASSWORD", DEFAULT_PASSWORD)
+                    .resolve("FLYWAY_CLEAN", DEFAULT_FLYWAY_CLEAN)
+                    .resolve("FLYWAY_CLEAN_STRATEGY", DEFAULT_CLEAN_STRATEGY)
+                    .resolve("FLYWAY_CLEAN_SCHEMAS", DEFAULT_CLEAN_SCHEMAS)
+                    .resolve("FLYWAY_MIGRATE", DEFAULT_FLYWAY_MIGRATE)
+                    .resolve("POSTGRES_POOL_SIZE", DEFAULT_POOL_SIZE);
+            return resolver
+                    .resolve("POSTGRES_POOL_DB_PREFIX", resolver.get("POSTGRES_DB") + DEFAULT_POOL_DB_SUFFIX)
+                    .values();
+        }
+
+        /**
+         * Gets a key identifying the database this configuration provisions, stable across contexts and JVMs. Contexts
+         * sharing the key share the database, so they must agree on all other settings as well, see
+         * {@link ProvisioningLock}.
+         *
+         * @return key made of host, port and database name
+         */
+        public String getKey() {
+            return "postgres-" + dbHost + "-" + dbPort + "-" + dbName;
+        }
+
+        String dbUrl(String databaseName) {
+            return "jdbc:postgresql://" + dbHost + ":" + dbPort + "/" + databaseName + "?loggerLevel=OFF";
+        }
+
+        /**
+         * Configurations are equal if all their settings are, so contexts with identical settings share a database pool.
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Config other && settings().equals(other.settings());
+        }
+
+        @Override
+        public int hashCode() {
+            return settings().hashCode();
+        }
+
+        private List<Object> settings() {
+            return Arrays.asList(dbHost, dbPort, dbName, dbUser, dbPassword, dbUrl, flywayClean, cleanStrategy, cleanSchemas,
+                    flywayMigrate, poolSize, poolDbPrefix);
+        }
     }
 
-    private final Config config = new Config();
+    private Config config = Config.resolve(null);
+    private String databaseUrl;
 
     @Override
     public void initialize(@NonNull ConfigurableApplicationContext configurableApplicationContext) {
-        injectIntoSpringTestContext(configurableApplicationContext, config);
-        resetDBWithFlyway(config);
+        config = Config.resolve(configurableApplicationContext.getEnvironment());
+        if (config.poolSize > 0) {
+            ResourcePool pool = DATABASE_POOLS.computeIfAbsent(config, key -> new DatabasePool(key).start(key.getKey() + "-" + key.poolDbPrefix));
+            String databaseName = pool.take();
+            onClose(configurableApplicationContext, () -> pool.release(databaseName));
+            databaseUrl = config.dbUrl(databaseName);
+            injectIntoSpringTestContext(configurableApplicationContext, config, databaseUrl);
+        } else {
+            databaseUrl = config.dbUrl;
+            injectIntoSpringTestContext(configurableApplicationContext, config, databaseUrl);
+            ProvisioningLock.Lease lease = ProvisioningLock.forResource(config.getKey())
+                    .provision(config.settings(), () -> resetDBWithFlyway(config, config.dbUrl, config.flywayClean, config.flywayMigrate));
+            onClose(configurableApplicationContext, lease::close);
+        }
+    }
+
+    /**
+     * Runs the action once the given context closes. Close events of child contexts are propagated to their parents,
+     * so events of other contexts are ignored.
+     */
+    private static void onClose(ConfigurableApplicationContext applicationContext, Runnable action) {
+        applicationContext.addApplicationListener((ApplicationListener<ContextClosedEvent>) event -> {
+            if (event.getApplicationContext() == applicationContext) {
+                action.run();
+            }
+        });
     }
 
-    private void injectIntoSpringTestContext(ConfigurableApplicationContext configurableApplicationContext, Config config) {
+    private void injectIntoSpringTestContext(ConfigurableApplicationContext configurableApplicationContext, Config config, String dbUrl) {
         TestPropertyValues.of(
-                "spring.datasource.url=" + config.dbUrl,
+                "spring.datasource.url=" + dbUrl,
                 "spring.datasource.username=" + config.dbUser,
                 "spring.datasource.password=" + config.dbPassword
         ).applyTo(configurableApplicationContext.getEnvironment());
     }
 
-    private void resetDBWithFlyway(Config ic) {
+    private static void resetDBWithFlyway(Config ic, String dbUrl, boolean clean, boolean migrate) {
         ClassicConfiguration config = new ClassicConfiguration();
         config.setCleanDisabled(false);
         config.setLocationsAsStrings("");
-        config.setDataSource(ic.dbUrl, ic.dbUser, ic.dbPassword);
+        config.setDataSource(dbUrl, ic.dbUser, ic.dbPassword);
         Flyway flyway = new Flyway(config);
-        if (ic.flywayClean) {
+        if (clean && ic.cleanStrategy == CleanStrategy.DROP_SCHEMA) {
+            dropAndRecreateSchemas(ic, dbUrl);
+        } else if (clean) {
             flyway.clean();
         }
-        if (ic.flywayMigrate) {
+        if (migrate) {
             flyway.migrate();
         }
     }
 
+    private static void dropAndRecreateSchemas(Config ic, String dbUrl) {
+        try (Connection connection = DriverManager.getConnection(dbUrl, ic.dbUser, ic.dbPassword)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String schema : ic.cleanSchemas) {
+                    dropAndRecreateSchema(connection, statement, schema);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to drop and recreate schemas " + ic.cleanSchemas, e);
+        }
+    }
+
+    private static void dropAndRecreateSchema(Connection connection, Statement statement, String schema) throws SQLException {
+        String owner = null;
+        List<String> grants = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT pg_get_userbyid(n.nspowner) AS owner, a.privilege_type, a.is_grantable, " +
+                        "CASE WHEN a.grantee = 0 THEN NULL ELSE pg_get_userbyid(a.grantee) END AS grantee " +
+                        "FROM pg_namespace n LEFT JOIN LATERAL aclexplode(n.nspacl) a ON true WHERE n.nspname = ?")) {
+            query.setString(1, schema);
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    owner = resultSet.getString("owner");
+                    String privilege = resultSet.getString("privilege_type");
+                    if (privilege != null) {
+                        String grantee = resultSet.getString("grantee");
+                        grants.add("GRANT " + privilege + " ON SCHEMA " + quote(schema) + " TO "
+                                + (grantee == null ? "PUBLIC" : quote(grantee))
+                                + (resultSet.getBoolean("is_grantable") ? " WITH GRANT OPTION" : ""));
+                    }
+                }
+            }
+        }
+        List<String> defaultPrivileges = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT pg_get_userbyid(d.defaclrole) AS role, d.defaclobjtype AS object_type, a.privilege_type, a.is_grantable, " +
+                        "CASE WHEN a.grantee = 0 THEN NULL ELSE pg_get_userbyid(a.grantee) END AS grantee " +
+                        "FROM pg_default_acl d JOIN pg_namespace n ON n.oid = d.defaclnamespace " +
+                        "CROSS JOIN LATERAL aclexplode(d.defaclacl) a WHERE n.nspname = ?")) {
+            query.setString(1, schema);
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    String grantee = resultSet.getString("grantee");
+                    defaultPrivileges.add("ALTER DEFAULT PRIVILEGES FOR ROLE " + quote(resultSet.getString("role"))
+                            + " IN SCHEMA " + quote(schema)
+                            + " GRANT " + resultSet.getString("privilege_type")
+                            + " ON " + defaultPrivilegeObjects(resultSet.getString("object_type"))
+                            + " TO " + (grantee == null ? "PUBLIC" : quote(grantee))
+                            + (resultSet.getBoolean("is_grantable") ? " WITH GRANT OPTION" : ""));
+                }
+            }
+        }
+        statement.execute("DROP SCHEMA IF EXISTS " + quote(schema) + " CASCADE");
+        statement.execute("CREATE SCHEMA " + quote(schema) + (owner == null ? "" : " AUTHORIZATION " + quote(owner)));
+        if (!grants.isEmpty()) {
+            // The recreated schema carries default privileges, which the captured ACL replaces
+            statement.execute("REVOKE ALL ON SCHEMA " + quote(schema) + " FROM PUBLIC");
+            statement.execute("REVOKE ALL ON SCHEMA " + quote(schema) + " FROM " + quote(owner));
+        }
+        for (String grant : grants) {
+            statement.execute(grant);
+        }
+        for (String defaultPrivilege : defaultPrivileges) {
+            statement.execute(defaultPrivilege);
+        }
+    }
+
+    private static String defaultPrivilegeObjects(String objectType) {
+        return switch (objectType) {
+            case "r" -> "TABLES";
+            case "S" -> "SEQUENCES";
+            case "f" -> "FUNCTIONS";
+            case "T" -> "TYPES";
+            default -> throw new IllegalStateException("Unsupported default privilege object type '" + objectType + "'");
+        };
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
 
     /**
      * Gets the resolved {@link Config} to be used by the initializer
@@ -104,4 +391,62 @@ public class PostgresTestContextInitializer implements ApplicationContextInitial
     public Config getConfig() {
         return config;
     }
+
+    /**
+     * Gets the JDBC url injected into the last initialized application context. Equals the configured database url
+     * unless the pool is enabled.
+     *
+     * @return injected JDBC url, {@code null} before {@link #initialize(ConfigurableApplicationContext)}
+     */
+    public String getDatabaseUrl() {
+        return databaseUrl;
+    }
+
+    /**
+     * Keeps {@code poolSize} migrated databases ready, using the configured database as maintenance connection for
+     * CREATE and DROP DATABASE.
+     */
+    private static class DatabasePool extends ResourcePool {
+        private final Config ic;
+
+        private DatabasePool(Config ic) {
+            super("postgres-database", ic.poolDbPrefix, ic.poolSize);
+            this.ic = ic;
+        }
+
+        @Override
+        void create(String databaseName) {
+            execute("CREATE DATABASE " + quote(databaseName));
+            resetDBWithFlyway(ic, ic.dbUrl(databaseName), false, true);
+        }
+
+        @Override
+        void remove(String databaseName) {
+            execute("DROP DATABASE IF EXISTS " + quote(databaseName) + " WITH (FORCE)");
+        }
+
+        @Override
+        List<String> list() {
+            try (Connection connection = DriverManager.getConnection(ic.dbUrl, ic.dbUser, ic.dbPassword);
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT datname FROM pg_database")) {
+                List<String> databaseNames = new ArrayList<>();
+                while (resultSet.next()) {
+                    databaseNames.add(resultSet.getString("datname"));
+                }
+                return databaseNames;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to list databases", e);
+            }
+        }
+
+        private void execute(String sql) {
+            try (Connection connection = DriverManager.getConnection(ic.dbUrl, ic.dbUser, ic.dbPassword);
+                 Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to execute '" + sql + "'", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package de.denktmit.testsupport.spring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code ProvisioningLock} coordinates access to an external service shared by several JVMs, e.g. surefire forks or
+ * parallel module builds using the same database or realm. It is backed by a lock file in a shared directory, which
+ * defaults to {@code ${java.io.tmpdir}/spring-test-initializers} and can be overridden using environment variable
+ * TEST_INITIALIZER_LOCK_DIR or system property {@code testsupport.test.initializer.lock.dir}.
+ * <p>
+ * Callers keep a shared {@link Lease} on the resource while their tests run. Provisioning only runs if nobody holds a
+ * lease yet; otherwise the resource is already provisioned and the caller just joins with another lease, so forks
+ * sharing a resource run concurrently instead of waiting for each other. Joining requires the same settings the
+ * resource was provisioned with, a caller with different settings fails instead of using a mismatched resource.
+ * <p>
+ * The lock file holds two regions: a gate serializing the provisioning decision and the usage region carrying the
+ * leases, followed by a digest of the settings of the current provisioning. To stay deadlock free across JVMs and lock
+ * files, the gate is only requested while holding no usage lock of the same file, and the exclusive usage lock is only
+ * tried, never waited for, while holding the gate.
+ */
+final class ProvisioningLock {
+    /**
+     * Default directory holding the lock files, if no environment variable is set for TEST_INITIALIZER_LOCK_DIR.
+     */
+    static String DEFAULT_LOCK_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "spring-test-initializers").toString();
+
+    private static final long GATE_REGION = 0;
+    private static final long USAGE_REGION = 1;
+    private static final long SETTINGS_POSITION = 2;
+    private static final int SETTINGS_LENGTH = 64;
+    private static final Map<Path, ProvisioningLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final FileChannel channel;
+    private FileLock sharedLock;
+    private String provisionedSettings;
+    private int leases;
+
+    private ProvisioningLock(Path lockFile) {
+        this.lockFile = lockFile;
+        try {
+            Files.createDirectories(lockFile.getParent());
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open lock file " + lockFile, e);
+        }
+    }
+
+    /**
+     * Gets the lock guarding the given resource. All callers within a JVM share the same instance per resource.
+     *
+     * @param resourceKey identifies the shared resource, e.g. host, port and database name
+     * @return lock for the resource
+     */
+    static ProvisioningLock forResource(String resourceKey) {
+        String lockDir = new ConfigResolver(null).resolve("TEST_INITIALIZER_LOCK_DIR", DEFAULT_LOCK_DIR).get("TEST_INITIALIZER_LOCK_DIR");
+        Path lockFile = Paths.get(lockDir, resourceKey.replaceAll("[^A-Za-z0-9._-]", "_") + ".lock");
+        return LOCKS.computeIfAbsent(lockFile, ProvisioningLock::new);
+    }
+
+    /**
+     * Runs the provisioning action if no JVM holds a lease on the resource, otherwise skips it as the resource is
+     * already provisioned. In both cases a lease on the resource is returned.
+     *
+     * @param settings settings the action provisions the resource with, compared by their string representation
+     * @param action   provisioning to run exclusively
+     * @return shared lease to be closed once the resource is no longer used
+     * @throws IllegalStateException if the resource is leased with different settings
+     */
+    synchronized Lease provision(Object settings, Runnable action) {
+        String digest = digest(settings);
+        if (leases == 0) {
+            try (FileLock ignored = channel.lock(GATE_REGION, 1, false)) {
+                FileLock exclusiveLock = channel.tryLock(USAGE_REGION, 1, false);
+                if (exclusiveLock != null) {
+                    try {
+                        action.run();
+                        writeSettings(digest);
+                    } finally {
+                        exclusiveLock.release();
+                    }
+                } else {
+                    checkSettings(digest, readSettings());
+                }
+                // Exclusive usage locks are only taken under the gate, so this never waits
+                sharedLock = channel.lock(USAGE_REGION, 1, true);
+                provisionedSettings = digest;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to lock resource", e);
+            }
+        } else {
+            checkSettings(digest, provisionedSettings);
+        }
+        leases++;
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        };
+    }
+
+    private synchronized void release() {
+        if (--leases == 0) {
+            try {
+                sharedLock.release();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to release resource lock", e);
+            }
+            sharedLock = null;
+        }
+    }
+
+    private void checkSettings(String requested, String provisioned) {
+        if (!requested.equals(provisioned)) {
+            throw new IllegalStateException("Resource guarded by " + lockFile + " is in use with different settings, "
+                    + "close the contexts using it or give this context its own database or realm");
+        }
+    }
+
+    private String readSettings() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SETTINGS_LENGTH);
+        while (buffer.hasRemaining() && channel.read(buffer, SETTINGS_POSITION + buffer.position()) > 0) {
+            // Read until full or end of file
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+    }
+
+    private void writeSettings(String digest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(digest.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, SETTINGS_POSITION + buffer.position());
+        }
+    }
+
+    /**
+     * Only a digest goes into the world-readable lock file, as settings contain passwords.
+     */
+    private static String digest(Object settings) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(settings).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Shared lease on a provisioned resource. Closing it more than once has no further effect.
+     */
+    interface Lease extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
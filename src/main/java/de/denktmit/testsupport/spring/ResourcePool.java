@@ -0,0 +1,209 @@
+package de.denktmit.testsupport.spring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * {@code ResourcePool} keeps a fixed number of provisioned resources, e.g. databases or realms, ready for the test
+ * contexts. Resources are named by a prefix followed by 8 random hex characters. Creating and removing them runs on a
+ * single background worker, so only {@link #take()} sits on the test startup path. Each taken resource is replaced
+ * right away, used resources are removed asynchronously once released.
+ * <p>
+ * On start, resources left over by earlier runs are removed, unless another JVM currently uses a pool with the same
+ * prefix. On JVM shutdown the worker is stopped and all resources still known to the pool are removed. Only
+ * provisioning failures are reported by {@link #take()}, failures to remove resources are collected and reported by
+ * the shutdown hook, as they do not affect the contexts being started.
+ */
+abstract class ResourcePool {
+    private static final long TAKE_TIMEOUT_SECONDS = 120;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final String description;
+    private final String prefix;
+    private final Pattern poolResourceName;
+    private final int size;
+    private final BlockingQueue<String> readyResources = new LinkedBlockingQueue<>();
+    private final Set<String> leasedResources = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<RuntimeException> provisioningFailure = new AtomicReference<>();
+    private final AtomicInteger lostResources = new AtomicInteger();
+    private final Queue<RuntimeException> cleanupFailures = new ConcurrentLinkedQueue<>();
+    private final ExecutorService worker;
+
+    /**
+     * Creates a pool, which does nothing until {@link #start(String)} is called.
+     *
+     * @param description names the pooled resources in thread names and error messages, e.g. "postgres-database"
+     * @param prefix      prefix of the resource names
+     * @param size        number of resources kept ready
+     */
+    ResourcePool(String description, String prefix, int size) {
+        this.description = description;
+        this.prefix = prefix;
+        this.poolResourceName = Pattern.compile(Pattern.quote(prefix) + "[0-9a-f]{8}");
+        this.size = size;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, description + "-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the resource with the given name.
+     *
+     * @param name name of the resource
+     */
+    abstract void create(String name);
+
+    /**
+     * Removes the resource with the given name, if it exists.
+     *
+     * @param name name of the resource
+     */
+    abstract void remove(String name);
+
+    /**
+     * Lists the names of all existing resources, the pool picks its own ones by name.
+     *
+     * @return names of existing resources
+     */
+    abstract List<String> list();
+
+    /**
+     * Starts removing leftovers and filling the pool in the background.
+     *
+     * @param lockKey key of the {@link ProvisioningLock} shared by all JVMs using pools with this prefix
+     * @return this pool
+     */
+    ResourcePool start(String lockKey) {
+        // The lease is held for the lifetime of the JVM, so other JVMs keep away from this JVM's resources
+        worker.submit(() -> runCleanup(() -> ProvisioningLock.forResource(lockKey).provision(prefix, this::removeLeftovers)));
+        for (int i = 0; i < size; i++) {
+            worker.submit(this::provisionNext);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, description + "-pool-shutdown"));
+        return this;
+    }
+
+    /**
+     * Takes a ready resource, waiting for one to be provisioned if necessary.
+     *
+     * @return name of the taken resource
+     * @throws IllegalStateException if provisioning failed or no resource became ready in time
+     */
+    String take() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TAKE_TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadline) {
+                String name = readyResources.poll(1, TimeUnit.SECONDS);
+                if (name != null) {
+                    leasedResources.add(name);
+                    worker.submit(this::provisionNext);
+                    return name;
+                }
+                RuntimeException failure = provisioningFailure.getAndSet(null);
+                if (failure != null) {
+                    for (int i = lostResources.getAndSet(0); i > 0; i--) {
+                        worker.submit(this::provisionNext);
+                    }
+                    throw new IllegalStateException("Failed to provision pooled " + description, failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for pooled " + description, e);
+        }
+        throw new IllegalStateException("No pooled " + description + " became available within " + TAKE_TIMEOUT_SECONDS + "s");
+    }
+
+    /**
+     * Removes a taken resource in the background. During JVM shutdown the shutdown hook removes it instead.
+     *
+     * @param name name of the taken resource
+     */
+    void release(String name) {
+        try {
+            worker.submit(() -> runCleanup(() -> {
+                remove(name);
+                leasedResources.remove(name);
+            }));
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the shutdown hook removes all leased resources
+        }
+    }
+
+    /**
+     * Tells whether the given name belongs to a resource created by a pool with this prefix.
+     *
+     * @param name resource name
+     * @return {@code true} for pool resources
+     */
+    boolean isPoolResource(String name) {
+        return poolResourceName.matcher(name).matches();
+    }
+
+    private void provisionNext() {
+        String name = prefix + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            create(name);
+            readyResources.add(name);
+        } catch (RuntimeException e) {
+            try {
+                remove(name);
+            } catch (RuntimeException removalFailure) {
+                e.addSuppressed(removalFailure);
+            }
+            lostResources.incrementAndGet();
+            RuntimeException previous = provisioningFailure.getAndSet(e);
+            if (previous != null) {
+                e.addSuppressed(previous);
+            }
+        }
+    }
+
+    private void removeLeftovers() {
+        list().stream().filter(this::isPoolResource).forEach(this::remove);
+    }
+
+    private void runCleanup(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            cleanupFailures.add(e);
+        }
+    }
+
+    private void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<String> remaining = new ArrayList<>(leasedResources);
+        readyResources.drainTo(remaining);
+        for (String name : remaining) {
+            runCleanup(() -> remove(name));
+        }
+        if (!cleanupFailures.isEmpty()) {
+            // Reported through the uncaught exception handler of the shutdown hook thread
+            IllegalStateException failure = new IllegalStateException("Failed to remove pooled " + description + " resources");
+            cleanupFailures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.denktmit.testsupport.spring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetEnvironmentVariable;
+import org.junitpioneer.jupiter.SetSystemProperty;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigResolverTest {
+
+    @BeforeEach
+    void setUp() {
+        ConfigResolver.clearJvmValues();
+    }
+
+    @Test
+    @SetEnvironmentVariable(key = "JUNIT_FROM_ENVIRONMENT", value = "env")
+    @SetEnvironmentVariable(key = "JUNIT_FROM_SYSTEM_PROPERTY", value = "env")
+    @SetEnvironmentVariable(key = "JUNIT_FROM_SPRING", value = "env")
+    @SetSystemProperty(key = "testsupport.junit.from.system.property", value = "system")
+    @SetSystemProperty(key = "testsupport.junit.from.spring", value = "system")
+    void testSourcePrecedence() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("junit", Map.of("testsupport.junit.from.spring", "spring")));
+
+        ConfigResolver resolver = new ConfigResolver(environment)
+                .resolve("JUNIT_FROM_SPRING", "default")
+                .resolve("JUNIT_FROM_SYSTEM_PROPERTY", "default")
+                .resolve("JUNIT_FROM_ENVIRONMENT", "default")
+                .resolve("JUNIT_FROM_DEFAULT", 42);
+
+        assertThat(resolver.values()).containsExactly(
+                Map.entry("JUNIT_FROM_SPRING", "spring"),
+                Map.entry("JUNIT_FROM_SYSTEM_PROPERTY", "system"),
+                Map.entry("JUNIT_FROM_ENVIRONMENT", "env"),
+                Map.entry("JUNIT_FROM_DEFAULT", "42"));
+    }
+
+    @Test
+    void testJvmValuesAreMemoized() {
+        try {
+            System.setProperty("testsupport.junit.memoized", "first");
+            assertThat(new ConfigResolver(null).resolve("JUNIT_MEMOIZED", "default").get("JUNIT_MEMOIZED")).isEqualTo("first");
+
+            System.setProperty("testsupport.junit.memoized", "second");
+            assertThat(new ConfigResolver(null).resolve("JUNIT_MEMOIZED", "default").get("JUNIT_MEMOIZED")).isEqualTo("first");
+
+            ConfigResolver.clearJvmValues();
+            assertThat(new ConfigResolver(null).resolve("JUNIT_MEMOIZED", "default").get("JUNIT_MEMOIZED")).isEqualTo("second");
+        } finally {
+            System.clearProperty("testsupport.junit.memoized");
+        }
+    }
+
+    @Test
+    void testPropertyName() {
+        assertThat(ConfigResolver.propertyName("KEYCLOAK_TEST_REALM_NAME")).isEqualTo("testsupport.keycloak.test.realm.name");
+    }
+
+}
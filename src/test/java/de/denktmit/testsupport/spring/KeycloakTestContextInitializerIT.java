@@ -4,11 +4,18 @@ import io.restassured.RestAssured;
 import io.restassured.filter.cookie.CookieFilter;
 import io.restassured.path.xml.XmlPath;
 import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
+import org.keycloak.representations.idm.RealmRepresentation;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.restassured.http.Method.GET;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -19,7 +26,7 @@ public class KeycloakTestContextInitializerIT {
     private static final String REDIRECT_URI = "http://localhost/login/oauth2/code/keycloak";
     private KeycloakTestContextInitializer initializer;
     private ConfigurableApplicationContext ctx;
-
+    private final List<ConfigurableApplicationContext> poolContexts = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
@@ -27,6 +34,11 @@ public class KeycloakTestContextInitializerIT {
         ctx = new GenericApplicationContext();
     }
 
+    @AfterEach
+    void tearDown() {
+        poolContexts.forEach(ConfigurableApplicationContext::close);
+    }
+
     @Test
     void testInitialize() {
         initializer.initialize(ctx);
@@ -37,6 +49,71 @@ public class KeycloakTestContextInitializerIT {
         login(ic, cookieFilter, authenticationUri);
     }
 
+    @Test
+    void testRealmPool() throws Exception {
+        String testRealmName = "pool-it-" + System.nanoTime();
+        String poolPrefix = testRealmName + "-pool-";
+        String defaultRealmName = KeycloakTestContextInitializer.Config.TEST_REALM_NAME;
+        int defaultPoolSize = KeycloakTestContextInitializer.Config.DEFAULT_REALM_POOL_SIZE;
+        try (Keycloak adminClient = adminClient(initializer.getConfig())) {
+            createRealm(adminClient, poolPrefix + "deadbeef");
+            createRealm(adminClient, poolPrefix + "keep");
+            KeycloakTestContextInitializer.Config.TEST_REALM_NAME = testRealmName;
+            KeycloakTestContextInitializer.Config.DEFAULT_REALM_POOL_SIZE = 1;
+            try {
+                List<String> takenRealms = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    KeycloakTestContextInitializer poolInitializer = new KeycloakTestContextInitializer();
+                    GenericApplicationContext poolContext = new GenericApplicationContext();
+                    poolContexts.add(poolContext);
+                    poolInitializer.initialize(poolContext);
+                    poolContext.refresh();
+                    takenRealms.add(poolInitializer.getRealmName());
+                }
+
+                assertThat(takenRealms).doesNotHaveDuplicates().allMatch(realm -> realm.matches(poolPrefix + "[0-9a-f]{8}"));
+                assertThat(realmNames(adminClient))
+                        .containsAll(takenRealms)
+                        .contains(poolPrefix + "keep")
+                        .doesNotContain(poolPrefix + "deadbeef");
+
+                poolContexts.get(0).close();
+                awaitRealmRemoved(adminClient, takenRealms.get(0));
+            } finally {
+                KeycloakTestContextInitializer.Config.TEST_REALM_NAME = defaultRealmName;
+                KeycloakTestContextInitializer.Config.DEFAULT_REALM_POOL_SIZE = defaultPoolSize;
+                adminClient.realm(poolPrefix + "keep").remove();
+            }
+        }
+    }
+
+    private static Keycloak adminClient(KeycloakTestContextInitializer.Config ic) {
+        return KeycloakBuilder.builder()
+                .serverUrl(ic.getKeycloakAddress())
+                .realm(ic.getKeycloakMasterRealm())
+                .clientId(ic.getKeycloakAdminClientId())
+                .username(ic.getKeycloakAdminName())
+                .password(ic.getKeycloakAdminPassword())
+                .build();
+    }
+
+    private static void createRealm(Keycloak adminClient, String realmName) {
+        RealmRepresentation realm = new RealmRepresentation();
+        realm.setRealm(realmName);
+        adminClient.realms().create(realm);
+    }
+
+    private static List<String> realmNames(Keycloak adminClient) {
+        return adminClient.realms().findAll().stream().map(RealmRepresentation::getRealm).toList();
+    }
+
+    private static void awaitRealmRemoved(Keycloak adminClient, String realmName) throws InterruptedException {
+        for (int i = 0; i < 60 && realmNames(adminClient).contains(realmName); i++) {
+            Thread.sleep(500);
+        }
+        assertThat(realmNames(adminClient)).doesNotContain(realmName);
+    }
+
     private static String visitAndVerifyLoginPage(KeycloakTestContextInitializer.Config ic, CookieFilter cookieFilter) {
         Response response = RestAssured
                 .given()
@@ -1,5 +1,6 @@
 package de.denktmit.testsupport.spring;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
 
@@ -7,6 +8,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class KeycloakTestContextInitializerTest {
 
+    @BeforeEach
+    void setUp() {
+        ConfigResolver.clearJvmValues();
+    }
+
     @Test
     @SetEnvironmentVariable(key = "KEYCLOAK_HOST_URI_SCHEMA", value = "https")
     @SetEnvironmentVariable(key = "KEYCLOAK_HOST", value = "keycloak.dangerzone.denktmit.tech")
@@ -22,6 +28,7 @@ public class KeycloakTestContextInitializerTest {
     @SetEnvironmentVariable(key = "KEYCLOAK_TEST_USER_ROLE_DESCRIPTION", value = "playground manager")
     @SetEnvironmentVariable(key = "KEYCLOAK_TEST_ADMIN_USERNAME", value = "playground-admin")
     @SetEnvironmentVariable(key = "KEYCLOAK_TEST_ADMIN_PASSWORD", value = "ThisIsHow2ConnectAnPlaygroundAdmin!")
+    @SetEnvironmentVariable(key = "KEYCLOAK_REALM_POOL_SIZE", value = "3")
     void testEnvironmentVariablePickup() throws Exception {
         KeycloakTestContextInitializer initializer = new KeycloakTestContextInitializer();
 
@@ -42,6 +49,9 @@ public class KeycloakTestContextInitializerTest {
         assertThat(ic.getTestUserRoleDescription()).isEqualTo("playground manager");
         assertThat(ic.getTestAdminUsername()).isEqualTo("playground-admin");
         assertThat(ic.getTestAdminPassword()).isEqualTo("ThisIsHow2ConnectAnPlaygroundAdmin!");
+        assertThat(ic.getRealmPoolSize()).isEqualTo(3);
+        assertThat(ic.getKey()).isEqualTo("keycloak-keycloak.dangerzone.denktmit.tech-28080-playground");
+        assertThat(KeycloakTestContextInitializer.Config.resolve(null)).isSameAs(ic);
     }
 
 }
@@ -1,5 +1,6 @@
 package de.denktmit.testsupport.spring;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -7,7 +8,9 @@ import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.PropertySource;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,6 +19,7 @@ public class PostgresTestContextInitializerIT {
 
     private PostgresTestContextInitializer initializer;
     private ConfigurableApplicationContext ctx;
+    private final List<ConfigurableApplicationContext> poolContexts = new ArrayList<>();
 
     @BeforeEach
     void setUp() throws Exception {
@@ -24,6 +28,12 @@ public class PostgresTestContextInitializerIT {
         dropAllTablesIfExistent();
     }
 
+    @AfterEach
+    void tearDown() {
+        ctx.close();
+        poolContexts.forEach(ConfigurableApplicationContext::close);
+    }
+
     void dropAllTablesIfExistent() throws Exception {
         String jdbcUrl = initializer.getConfig().dbUrl;
         String username = initializer.getConfig().dbUser;
@@ -38,6 +48,7 @@ public class PostgresTestContextInitializerIT {
     void testInitialize() throws Exception {
         PostgresTestContextInitializer initializer = new PostgresTestContextInitializer();
         initializer.initialize(ctx);
+        ctx.refresh();
         validateSpringIntegration();
         validateDataInExampleTable();
     }
@@ -50,9 +61,134 @@ public class PostgresTestContextInitializerIT {
         assertThat(testPropertySource.getProperty("spring.datasource.password")).isEqualTo(initializer.getConfig().dbPassword);
     }
 
+    @Test
+    void testDropSchemaCleanStrategy() throws Exception {
+        execute("DO $$ BEGIN IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = 'it_reader') THEN CREATE ROLE it_reader; END IF; END $$");
+        execute("DROP TABLE IF EXISTS it_table CASCADE");
+        execute("DROP TYPE IF EXISTS it_mood CASCADE");
+        execute("CREATE TYPE it_mood AS ENUM ('happy', 'sad')");
+        execute("CREATE TABLE it_table (id INT, mood it_mood)");
+        execute("CREATE VIEW it_view AS SELECT id FROM it_table");
+        execute("CREATE OR REPLACE FUNCTION it_function() RETURNS INT LANGUAGE sql AS 'SELECT 1'");
+        execute("GRANT USAGE ON SCHEMA public TO it_reader");
+        execute("ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT SELECT ON TABLES TO it_reader");
+        PostgresTestContextInitializer.CleanStrategy defaultCleanStrategy = PostgresTestContextInitializer.DEFAULT_CLEAN_STRATEGY;
+        try {
+            List<String> ownerBefore = queryList("SELECT pg_get_userbyid(nspowner) FROM pg_namespace WHERE nspname = 'public'");
+            List<String> aclBefore = schemaAcl();
+            List<String> defaultAclBefore = defaultAcl();
+            assertThat(aclBefore).contains("it_reader:USAGE:false");
+            assertThat(defaultAclBefore).isNotEmpty();
+
+            PostgresTestContextInitializer.DEFAULT_CLEAN_STRATEGY = PostgresTestContextInitializer.CleanStrategy.DROP_SCHEMA;
+            new PostgresTestContextInitializer().initialize(ctx);
+            ctx.refresh();
+
+            validateDataInExampleTable();
+            assertThat(queryList("SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                    "WHERE n.nspname = 'public' AND c.relname IN ('it_table', 'it_view') " +
+                    "UNION ALL SELECT proname FROM pg_proc WHERE proname = 'it_function' " +
+                    "UNION ALL SELECT typname FROM pg_type WHERE typname = 'it_mood'")).isEmpty();
+            assertThat(queryList("SELECT pg_get_userbyid(nspowner) FROM pg_namespace WHERE nspname = 'public'")).isEqualTo(ownerBefore);
+            assertThat(schemaAcl()).isEqualTo(aclBefore);
+            assertThat(defaultAcl()).isEqualTo(defaultAclBefore);
+        } finally {
+            PostgresTestContextInitializer.DEFAULT_CLEAN_STRATEGY = defaultCleanStrategy;
+            execute("ALTER DEFAULT PRIVILEGES IN SCHEMA public REVOKE SELECT ON TABLES FROM it_reader");
+            execute("REVOKE USAGE ON SCHEMA public FROM it_reader");
+            execute("DROP ROLE it_reader");
+        }
+    }
+
+    private List<String> schemaAcl() throws SQLException {
+        return queryList("SELECT coalesce(pg_get_userbyid(nullif(a.grantee, 0)), 'PUBLIC') || ':' || a.privilege_type || ':' || a.is_grantable " +
+                "FROM pg_namespace n CROSS JOIN LATERAL aclexplode(n.nspacl) a WHERE n.nspname = 'public' ORDER BY 1");
+    }
+
+    private List<String> defaultAcl() throws SQLException {
+        return queryList("SELECT pg_get_userbyid(d.defaclrole) || ':' || d.defaclobjtype || ':' || d.defaclacl::text " +
+                "FROM pg_default_acl d JOIN pg_namespace n ON n.oid = d.defaclnamespace WHERE n.nspname = 'public' ORDER BY 1");
+    }
+
+    private List<String> queryList(String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                values.add(resultSet.getString(1));
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void testDatabasePool() throws Exception {
+        String poolSuffix = "_pool_it_" + System.nanoTime() + "_";
+        String poolPrefix = initializer.getConfig().dbName + poolSuffix;
+        int defaultPoolSize = PostgresTestContextInitializer.DEFAULT_POOL_SIZE;
+        String defaultPoolSuffix = PostgresTestContextInitializer.DEFAULT_POOL_DB_SUFFIX;
+        execute("CREATE DATABASE " + poolPrefix + "deadbeef");
+        execute("CREATE DATABASE " + poolPrefix + "keep");
+        PostgresTestContextInitializer.DEFAULT_POOL_SIZE = 1;
+        PostgresTestContextInitializer.DEFAULT_POOL_DB_SUFFIX = poolSuffix;
+        try {
+            List<String> takenDatabases = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                PostgresTestContextInitializer poolInitializer = new PostgresTestContextInitializer();
+                GenericApplicationContext poolContext = new GenericApplicationContext();
+                poolContexts.add(poolContext);
+                poolInitializer.initialize(poolContext);
+                poolContext.refresh();
+                validateDataInExampleTable(poolInitializer.getDatabaseUrl());
+                takenDatabases.add(databaseName(poolInitializer.getDatabaseUrl()));
+            }
+
+            assertThat(takenDatabases).doesNotHaveDuplicates().allMatch(database -> database.matches(poolPrefix + "[0-9a-f]{8}"));
+            assertThat(databaseNames())
+                    .containsAll(takenDatabases)
+                    .contains(poolPrefix + "keep")
+                    .doesNotContain(poolPrefix + "deadbeef");
+
+            poolContexts.get(0).close();
+            awaitDatabaseDropped(takenDatabases.get(0));
+        } finally {
+            PostgresTestContextInitializer.DEFAULT_POOL_SIZE = defaultPoolSize;
+            PostgresTestContextInitializer.DEFAULT_POOL_DB_SUFFIX = defaultPoolSuffix;
+            execute("DROP DATABASE IF EXISTS " + poolPrefix + "keep WITH (FORCE)");
+        }
+    }
+
+    private static String databaseName(String jdbcUrl) {
+        return jdbcUrl.substring(jdbcUrl.lastIndexOf('/') + 1, jdbcUrl.indexOf('?'));
+    }
+
+    private List<String> databaseNames() throws SQLException {
+        return queryList("SELECT datname FROM pg_database");
+    }
+
+    private void awaitDatabaseDropped(String databaseName) throws Exception {
+        for (int i = 0; i < 60 && databaseNames().contains(databaseName); i++) {
+            Thread.sleep(500);
+        }
+        assertThat(databaseNames()).doesNotContain(databaseName);
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(initializer.getConfig().dbUrl, initializer.getConfig().dbUser, initializer.getConfig().dbPassword);
+    }
+
     void validateDataInExampleTable() throws Exception {
+        validateDataInExampleTable(initializer.getConfig().dbUrl);
+    }
+
+    void validateDataInExampleTable(String jdbcUrl) throws Exception {
         // Database connection information
-        String jdbcUrl = initializer.getConfig().dbUrl;
         String username = initializer.getConfig().dbUser;
         String password = initializer.getConfig().dbPassword;
 
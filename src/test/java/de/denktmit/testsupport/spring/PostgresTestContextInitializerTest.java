@@ -1,13 +1,25 @@
 package de.denktmit.testsupport.spring;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
+import org.junitpioneer.jupiter.SetSystemProperty;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class PostgresTestContextInitializerTest {
 
+    @BeforeEach
+    void setUp() {
+        ConfigResolver.clearJvmValues();
+    }
+
     @Test
     @SetEnvironmentVariable(key = "POSTGRES_HOST", value = "db.example.com")
     @SetEnvironmentVariable(key = "POSTGRES_PORT", value = "5432")
@@ -16,6 +28,9 @@ public class PostgresTestContextInitializerTest {
     @SetEnvironmentVariable(key = "POSTGRES_PASSWORD", value = "db-test-password")
     @SetEnvironmentVariable(key = "FLYWAY_CLEAN", value = "false")
     @SetEnvironmentVariable(key = "FLYWAY_MIGRATE", value = "false")
+    @SetEnvironmentVariable(key = "POSTGRES_POOL_DB_PREFIX", value = "prod_it_")
+    @SetEnvironmentVariable(key = "FLYWAY_CLEAN_STRATEGY", value = "drop-schema")
+    @SetEnvironmentVariable(key = "FLYWAY_CLEAN_SCHEMAS", value = "public, audit")
     void testEnvironmentVariablePickup() throws Exception {
         PostgresTestContextInitializer initializer = new PostgresTestContextInitializer();
 //                withEnvironmentVariable("first", "first value")
@@ -38,8 +53,38 @@ public class PostgresTestContextInitializerTest {
         assertThat(initializer.getConfig().dbUser).isEqualTo("db-test-user");
         assertThat(initializer.getConfig().dbPassword).isEqualTo("db-test-password");
         assertThat(initializer.getConfig().flywayClean).isFalse();
+        assertThat(initializer.getConfig().cleanStrategy).isEqualTo(PostgresTestContextInitializer.CleanStrategy.DROP_SCHEMA);
+        assertThat(initializer.getConfig().cleanSchemas).containsExactly("public", "audit");
         assertThat(initializer.getConfig().flywayMigrate).isFalse();
+        assertThat(initializer.getConfig().poolSize).isZero();
+        assertThat(initializer.getConfig().poolDbPrefix).isEqualTo("prod_it_");
+        assertThat(initializer.getDatabaseUrl()).isEqualTo(initializer.getConfig().dbUrl);
+        assertThat(initializer.getConfig().getKey()).isEqualTo("postgres-db.example.com-5432-prod");
+
+    }
+
+    @Test
+    @SetEnvironmentVariable(key = "FLYWAY_CLEAN_STRATEGY", value = "truncate")
+    void testInvalidCleanStrategy() {
+        assertThatThrownBy(PostgresTestContextInitializer::new)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid FLYWAY_CLEAN_STRATEGY (testsupport.flyway.clean.strategy) 'truncate', allowed values are flyway, drop-schema");
+    }
+
+    @Test
+    @SetSystemProperty(key = "testsupport.postgres.db", value = "fork1")
+    @SetEnvironmentVariable(key = "POSTGRES_DB", value = "prod")
+    void testConfigResolution() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of("testsupport.postgres.port", "15432")));
+
+        PostgresTestContextInitializer.Config config = PostgresTestContextInitializer.Config.resolve(environment);
 
+        assertThat(config.dbName).isEqualTo("fork1");
+        assertThat(config.dbPort).isEqualTo(15432);
+        assertThat(config.poolDbPrefix).isEqualTo("fork1_pool_");
+        assertThat(PostgresTestContextInitializer.Config.resolve(environment)).isSameAs(config);
+        assertThat(PostgresTestContextInitializer.Config.resolve(null)).isNotSameAs(config);
     }
 
 }
@@ -0,0 +1,167 @@
+package de.denktmit.testsupport.spring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ProvisioningLockTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String SETTINGS = "junit-settings";
+
+    private OtherJvm otherJvm;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (otherJvm != null) {
+            otherJvm.exit();
+        }
+    }
+
+    @Test
+    void testLeasesWithinSameJvm() {
+        ProvisioningLock lock = ProvisioningLock.forResource("junit-" + System.nanoTime());
+        AtomicInteger provisionings = new AtomicInteger();
+
+        ProvisioningLock.Lease first = lock.provision(SETTINGS, provisionings::incrementAndGet);
+        ProvisioningLock.Lease second = lock.provision(SETTINGS, provisionings::incrementAndGet);
+        assertThat(provisionings).as("joins the leased resource").hasValue(1);
+
+        first.close();
+        first.close();
+        lock.provision(SETTINGS, provisionings::incrementAndGet).close();
+        assertThat(provisionings).as("double close keeps the second lease").hasValue(1);
+
+        second.close();
+        lock.provision(SETTINGS, provisionings::incrementAndGet).close();
+        assertThat(provisionings).as("reprovisions the unused resource").hasValue(2);
+        assertThat(ProvisioningLock.forResource("junit/other")).isSameAs(ProvisioningLock.forResource("junit/other"));
+    }
+
+    @Test
+    void testFailedProvisioningHoldsNoLease() {
+        ProvisioningLock lock = ProvisioningLock.forResource("junit-" + System.nanoTime());
+        AtomicInteger provisionings = new AtomicInteger();
+
+        assertThatThrownBy(() -> lock.provision(SETTINGS, () -> {
+            throw new IllegalStateException("provisioning failed");
+        })).hasMessage("provisioning failed");
+        lock.provision(SETTINGS, provisionings::incrementAndGet).close();
+
+        assertThat(provisionings).hasValue(1);
+    }
+
+    @Test
+    void testRejectsDifferentSettingsWithinSameJvm() {
+        ProvisioningLock lock = ProvisioningLock.forResource("junit-" + System.nanoTime());
+        AtomicInteger provisionings = new AtomicInteger();
+
+        ProvisioningLock.Lease lease = lock.provision(SETTINGS, provisionings::incrementAndGet);
+        assertThatThrownBy(() -> lock.provision("other-settings", provisionings::incrementAndGet))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use with different settings");
+        lease.close();
+        lock.provision("other-settings", provisionings::incrementAndGet).close();
+
+        assertThat(provisionings).as("reprovisions with the other settings once unused").hasValue(2);
+    }
+
+    @Test
+    void testJoinsResourceLeasedByOtherJvm() throws Exception {
+        String resource = "junit-" + System.nanoTime();
+        ProvisioningLock lock = ProvisioningLock.forResource(resource);
+        AtomicInteger provisionings = new AtomicInteger();
+        otherJvm = new OtherJvm();
+
+        assertThat(otherJvm.send("provision " + resource)).isEqualTo("provisioned " + resource);
+        assertThatThrownBy(() -> lock.provision("other-settings", provisionings::incrementAndGet))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use with different settings");
+        assertTimeoutPreemptively(TIMEOUT, () -> lock.provision(SETTINGS, provisionings::incrementAndGet).close());
+        assertThat(provisionings).as("joins without reprovisioning").hasValue(0);
+
+        assertThat(otherJvm.send("release " + resource)).isEqualTo("released " + resource);
+        assertTimeoutPreemptively(TIMEOUT, () -> lock.provision(SETTINGS, provisionings::incrementAndGet).close());
+        assertThat(provisionings).as("reprovisions once the other JVM is done").hasValue(1);
+    }
+
+    @Test
+    void testCrossedLeasesDoNotDeadlock() throws Exception {
+        String postgres = "junit-postgres-" + System.nanoTime();
+        String keycloak = "junit-keycloak-" + System.nanoTime();
+        otherJvm = new OtherJvm();
+
+        ProvisioningLock.Lease postgresLease = ProvisioningLock.forResource(postgres).provision(SETTINGS, () -> {
+        });
+        assertThat(otherJvm.send("provision " + keycloak)).isEqualTo("provisioned " + keycloak);
+        assertThat(otherJvm.send("provision " + postgres)).isEqualTo("joined " + postgres);
+        assertTimeoutPreemptively(TIMEOUT, () -> ProvisioningLock.forResource(keycloak).provision(SETTINGS, () -> {
+            throw new AssertionError("must join the resource leased by the other JVM");
+        }).close());
+        postgresLease.close();
+    }
+
+    /**
+     * Second JVM holding leases on behalf of the test, controlled line by line through stdin. Answers
+     * {@code provision <key>} with {@code provisioned <key>} or {@code joined <key>} and {@code release <key>} with
+     * {@code released <key>}.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, ProvisioningLock.Lease> leases = new HashMap<>();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        for (String line = in.readLine(); line != null && !line.equals("exit"); line = in.readLine()) {
+            String[] command = line.split(" ", 2);
+            if (command[0].equals("provision")) {
+                AtomicInteger provisionings = new AtomicInteger();
+                leases.put(command[1], ProvisioningLock.forResource(command[1]).provision(SETTINGS, provisionings::incrementAndGet));
+                System.out.println((provisionings.get() > 0 ? "provisioned " : "joined ") + command[1]);
+            } else {
+                leases.remove(command[1]).close();
+                System.out.println("released " + command[1]);
+            }
+        }
+    }
+
+    private static class OtherJvm {
+        private final Process process;
+        private final PrintWriter commands;
+        private final BufferedReader answers;
+
+        private OtherJvm() throws IOException {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), ProvisioningLockTest.class.getName())
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            commands = new PrintWriter(process.getOutputStream(), true, StandardCharsets.UTF_8);
+            answers = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        private String send(String command) {
+            commands.println(command);
+            return assertTimeoutPreemptively(TIMEOUT, answers::readLine);
+        }
+
+        private void exit() throws InterruptedException {
+            commands.println("exit");
+            if (!process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+}